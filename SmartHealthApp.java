@@ -1,5 +1,23 @@
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class SmartHealthApp {
 
@@ -161,15 +179,301 @@ public class SmartHealthApp {
         }
     }
 
+    // ==============================
+    // Change Events
+    // ==============================
+    enum EntityType { PATIENT, DOCTOR, APPOINTMENT }
+
+    enum ChangeOp { INSERT, UPDATE, DELETE }
+
+    static class ChangeEvent {
+        private final long sequence;
+        private final EntityType entity;
+        private final int entityId;
+        private final ChangeOp op;
+        private final Object before;
+        private final Object after;
+
+        public ChangeEvent(long sequence, EntityType entity, int entityId, ChangeOp op, Object before, Object after) {
+            this.sequence = sequence;
+            this.entity = entity;
+            this.entityId = entityId;
+            this.op = op;
+            this.before = before;
+            this.after = after;
+        }
+
+        public long getSequence() { return sequence; }
+        public EntityType getEntity() { return entity; }
+        public int getEntityId() { return entityId; }
+        public ChangeOp getOp() { return op; }
+        public Object getBefore() { return before; }
+        public Object getAfter() { return after; }
+
+        @Override
+        public String toString() {
+            return sequence + ":" + entity + ":" + op + ":" + entityId;
+        }
+    }
+
+    static class ChangeSubscription {
+        private final ChangeEventBus bus;
+        private final String name;
+        // Next sequence this subscriber will read
+        private final AtomicLong next;
+        private volatile boolean overrun;
+
+        ChangeSubscription(ChangeEventBus bus, String name, long start) {
+            this.bus = bus;
+            this.name = name;
+            this.next = new AtomicLong(start);
+        }
+
+        public String getName() { return name; }
+        public long getLag() { return bus.getCursor() - next.get(); }
+
+        // Returns true once after this subscriber fell behind and missed events;
+        // the caller should rebuild its state from the DAOs.
+        public boolean consumeOverrun() {
+            if (!overrun) return false;
+            overrun = false;
+            return true;
+        }
+
+        public List<ChangeEvent> poll(int maxBatch) {
+            return bus.poll(this, maxBatch);
+        }
+
+        public int drain(int maxBatch, java.util.function.Consumer<List<ChangeEvent>> handler) {
+            int total = 0;
+            List<ChangeEvent> batch;
+            while (!(batch = poll(maxBatch)).isEmpty()) {
+                handler.accept(batch);
+                total += batch.size();
+            }
+            return total;
+        }
+    }
+
+    static class ChangeEventBus {
+        private static final int DEFAULT_CAPACITY = 4096;
+        private static final ChangeEventBus DEFAULT = new ChangeEventBus(DEFAULT_CAPACITY);
+        private static final int SPIN_LIMIT = 100;
+        private static final int YIELD_LIMIT = 200;
+        private static final long PARK_NANOS = 10_000;
+
+        private final int capacity;
+        private final int mask;
+        private final AtomicReferenceArray<ChangeEvent> slots;
+        // Sequence last written into each slot, so readers can tell "not yet published" from "overwritten".
+        private final AtomicLongArray published;
+        private final AtomicLong cursor = new AtomicLong();
+
+        public ChangeEventBus(int capacity) {
+            if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+                throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+            }
+            this.capacity = capacity;
+            this.mask = capacity - 1;
+            this.slots = new AtomicReferenceArray<>(capacity);
+            this.published = new AtomicLongArray(capacity);
+            // Slot i starts out as if it held sequence i - capacity, the slot's "previous lap"
+            for (int i = 0; i < capacity; i++) {
+                published.set(i, i - capacity);
+            }
+        }
+
+        public static ChangeEventBus getDefault() { return DEFAULT; }
+
+        public int getCapacity() { return capacity; }
+        public long getCursor() { return cursor.get(); }
+
+        // Subscribers never stall producers: every consumer in this app drains on the caller's thread,
+        // so one that falls a full ring behind is flagged as overrun and skipped forward instead.
+        public ChangeSubscription subscribe(String name) {
+            return new ChangeSubscription(this, name, cursor.get());
+        }
+
+        public void publish(EntityType entity, int entityId, ChangeOp op, Object before, Object after) {
+            long seq = cursor.getAndIncrement();
+            int index = (int) (seq & mask);
+            // A producer that lapped a slower one waits for it, so each slot is written in sequence order.
+            // The slower producer may be descheduled, so back off from spinning to yielding to parking.
+            for (int spins = 0; published.get(index) != seq - capacity; spins++) {
+                if (spins < SPIN_LIMIT) {
+                    Thread.onSpinWait();
+                } else if (spins < YIELD_LIMIT) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+            }
+            slots.set(index, new ChangeEvent(seq, entity, entityId, op, before, after));
+            published.set(index, seq);
+        }
+
+        List<ChangeEvent> poll(ChangeSubscription sub, int maxBatch) {
+            List<ChangeEvent> batch = new ArrayList<>();
+            long next = sub.next.get();
+            long limit = cursor.get();
+            while (next < limit && batch.size() < maxBatch) {
+                int index = (int) (next & mask);
+                long seq = published.get(index);
+                if (seq < next) break; // claimed but not yet published
+                ChangeEvent event = slots.get(index);
+                if (seq > next || event.getSequence() != next) {
+                    // Slot was reused before we got to it
+                    sub.overrun = true;
+                    sub.next.set(cursor.get());
+                    return new ArrayList<>();
+                }
+                batch.add(event);
+                next++;
+            }
+            sub.next.set(next);
+            return batch;
+        }
+    }
+
     // ==============================
     // DAO Classes
     // ==============================
+    // Shared file plumbing for the DAOs. Writers hold a per-file lock (within this JVM and, through a
+    // ".lock" file, across processes) for the whole read-modify-write, and files are replaced atomically
+    // so readers never see a half-written file. Each write also records the file's stamp before and after
+    // it, letting in-memory views tell this process's own writes (already covered by change events)
+    // apart from edits made by another process.
+    static class DataFiles {
+        private static final int MAX_OWN_WRITES = 256;
+        private static final Map<String, ReentrantLock> writeLocks = new ConcurrentHashMap<>();
+        private static final Map<String, Map<String, String>> ownWrites = new ConcurrentHashMap<>();
+        private static volatile String directory = "data";
+
+        public static String getDirectory() { return directory; }
+
+        // Lets the load test point every DAO at a scratch copy instead of the real data.
+        public static void setDirectory(String directory) {
+            DataFiles.directory = directory;
+        }
+
+        public static String path(String fileName) {
+            return directory + File.separator + fileName;
+        }
+
+        // Files are replaced rather than rewritten, so the file key (inode) changes on every write.
+        public static String stamp(String path) {
+            File file = new File(path);
+            Object key = null;
+            try {
+                key = Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+            } catch (IOException e) {
+                // File may not exist yet
+            }
+            return key + ":" + file.lastModified() + ":" + file.length();
+        }
+
+        public static void writeLines(String path, List<?> records) throws IOException {
+            File tmp = new File(path + ".tmp");
+            try {
+                try (BufferedWriter bw = new BufferedWriter(new FileWriter(tmp))) {
+                    for (Object record : records) {
+                        bw.write(record.toString());
+                        bw.newLine();
+                    }
+                }
+                Files.move(tmp.toPath(), Paths.get(path), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                tmp.delete();
+            }
+        }
+
+        public static WriteLock lockForWrite(String path) {
+            return new WriteLock(path);
+        }
+
+        // Follows this process's own writes forward from the given stamp and returns the stamp after the
+        // last of them; the result equals the current stamp only if nobody else touched the file.
+        public static String followOwnWrites(String path, String from) {
+            Map<String, String> writes = ownWrites.get(path);
+            if (writes == null) return from;
+            synchronized (writes) {
+                String stamp = from;
+                for (int i = 0; i < MAX_OWN_WRITES && writes.containsKey(stamp); i++) {
+                    stamp = writes.get(stamp);
+                }
+                return stamp;
+            }
+        }
+
+        private static Map<String, String> ownWritesFor(String path) {
+            return ownWrites.computeIfAbsent(path, k -> new LinkedHashMap<String, String>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > MAX_OWN_WRITES;
+                }
+            });
+        }
+
+        static class WriteLock implements AutoCloseable {
+            private final String path;
+            private final ReentrantLock lock;
+            private FileChannel channel;
+            private String stamp;
+
+            WriteLock(String path) {
+                this.path = path;
+                this.lock = writeLocks.computeIfAbsent(path, k -> new ReentrantLock());
+                lock.lock();
+                try {
+                    channel = FileChannel.open(Paths.get(path + ".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                    channel.lock();
+                } catch (IOException e) {
+                    // e.g. the data directory does not exist yet; the save will report the problem
+                    closeChannel();
+                }
+                stamp = stamp(path);
+            }
+
+            // Taken while still holding the lock, so no other writer can slip in between.
+            public void recordWrite() {
+                String after = stamp(path);
+                Map<String, String> writes = ownWritesFor(path);
+                synchronized (writes) {
+                    writes.put(stamp, after);
+                }
+                stamp = after;
+            }
+
+            @Override
+            public void close() {
+                closeChannel();
+                lock.unlock();
+            }
+
+            private void closeChannel() {
+                if (channel == null) return;
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    // Closing the channel releases the lock; nothing more to do
+                }
+                channel = null;
+            }
+        }
+    }
+
     static class PatientDAO {
-        private static final String FILE_PATH = "data/patients.txt";
+        static final String FILE_NAME = "patients.txt";
+        private final ChangeEventBus bus = ChangeEventBus.getDefault();
+        private PrintStream out = System.out;
+
+        public void setOutput(PrintStream out) {
+            this.out = out;
+        }
 
         public List<Patient> getAllPatients() {
             List<Patient> patients = new ArrayList<>();
-            try (BufferedReader br = new BufferedReader(new FileReader(FILE_PATH))) {
+            try (BufferedReader br = new BufferedReader(new FileReader(DataFiles.path(FILE_NAME)))) {
                 String line;
                 while ((line = br.readLine()) != null) {
                     if (!line.trim().isEmpty())
@@ -181,38 +485,72 @@ public class SmartHealthApp {
             return patients;
         }
 
-        public void saveAllPatients(List<Patient> patients) {
-            try (BufferedWriter bw = new BufferedWriter(new FileWriter(FILE_PATH))) {
-                for (Patient p : patients) {
-                    bw.write(p.toString());
-                    bw.newLine();
-                }
+        public boolean saveAllPatients(List<Patient> patients) {
+            try {
+                DataFiles.writeLines(DataFiles.path(FILE_NAME), patients);
+                return true;
             } catch (IOException e) {
-                System.out.println("Error saving patients: " + e.getMessage());
+                out.println("Error saving patients: " + e.getMessage());
+                return false;
             }
         }
 
-        public void addPatient(Patient patient) {
-            List<Patient> patients = getAllPatients();
-            patients.add(patient);
-            saveAllPatients(patients);
+        public boolean addPatient(Patient patient) {
+            try (DataFiles.WriteLock lock = DataFiles.lockForWrite(DataFiles.path(FILE_NAME))) {
+                List<Patient> patients = getAllPatients();
+                patients.add(patient);
+                if (!saveAllPatients(patients)) {
+                    return false;
+                }
+                lock.recordWrite();
+                bus.publish(EntityType.PATIENT, patient.getId(), ChangeOp.INSERT, null, Patient.fromString(patient.toString()));
+                return true;
+            }
         }
 
-        public void updatePatient(Patient patient) {
-            List<Patient> patients = getAllPatients();
-            for (int i = 0; i < patients.size(); i++) {
-                if (patients.get(i).getId() == patient.getId()) {
-                    patients.set(i, patient);
-                    break;
+        public boolean updatePatient(Patient patient) {
+            try (DataFiles.WriteLock lock = DataFiles.lockForWrite(DataFiles.path(FILE_NAME))) {
+                List<Patient> patients = getAllPatients();
+                Patient before = null;
+                for (int i = 0; i < patients.size(); i++) {
+                    if (patients.get(i).getId() == patient.getId()) {
+                        before = patients.set(i, patient);
+                        break;
+                    }
+                }
+                if (!saveAllPatients(patients)) {
+                    return false;
                 }
+                lock.recordWrite();
+                if (before == null) {
+                    return false;
+                }
+                bus.publish(EntityType.PATIENT, patient.getId(), ChangeOp.UPDATE, before, Patient.fromString(patient.toString()));
+                return true;
             }
-            saveAllPatients(patients);
         }
 
-        public void deletePatient(int id) {
-            List<Patient> patients = getAllPatients();
-            patients.removeIf(p -> p.getId() == id);
-            saveAllPatients(patients);
+        public boolean deletePatient(int id) {
+            try (DataFiles.WriteLock lock = DataFiles.lockForWrite(DataFiles.path(FILE_NAME))) {
+                List<Patient> patients = getAllPatients();
+                Patient before = null;
+                for (Iterator<Patient> it = patients.iterator(); it.hasNext(); ) {
+                    Patient p = it.next();
+                    if (p.getId() == id) {
+                        before = p;
+                        it.remove();
+                    }
+                }
+                if (!saveAllPatients(patients)) {
+                    return false;
+                }
+                lock.recordWrite();
+                if (before == null) {
+                    return false;
+                }
+                bus.publish(EntityType.PATIENT, id, ChangeOp.DELETE, before, null);
+                return true;
+            }
         }
 
         public Patient getPatientById(int id) {
@@ -233,11 +571,17 @@ public class SmartHealthApp {
     }
 
     static class DoctorDAO {
-        private static final String FILE_PATH = "data/doctors.txt";
+        static final String FILE_NAME = "doctors.txt";
+        private final ChangeEventBus bus = ChangeEventBus.getDefault();
+        private PrintStream out = System.out;
+
+        public void setOutput(PrintStream out) {
+            this.out = out;
+        }
 
         public List<Doctor> getAllDoctors() {
             List<Doctor> doctors = new ArrayList<>();
-            try (BufferedReader br = new BufferedReader(new FileReader(FILE_PATH))) {
+            try (BufferedReader br = new BufferedReader(new FileReader(DataFiles.path(FILE_NAME)))) {
                 String line;
                 while ((line = br.readLine()) != null) {
                     if (!line.trim().isEmpty())
@@ -249,38 +593,72 @@ public class SmartHealthApp {
             return doctors;
         }
 
-        public void saveAllDoctors(List<Doctor> doctors) {
-            try (BufferedWriter bw = new BufferedWriter(new FileWriter(FILE_PATH))) {
-                for (Doctor d : doctors) {
-                    bw.write(d.toString());
-                    bw.newLine();
-                }
+        public boolean saveAllDoctors(List<Doctor> doctors) {
+            try {
+                DataFiles.writeLines(DataFiles.path(FILE_NAME), doctors);
+                return true;
             } catch (IOException e) {
-                System.out.println("Error saving doctors: " + e.getMessage());
+                out.println("Error saving doctors: " + e.getMessage());
+                return false;
             }
         }
 
-        public void addDoctor(Doctor doctor) {
-            List<Doctor> doctors = getAllDoctors();
-            doctors.add(doctor);
-            saveAllDoctors(doctors);
+        public boolean addDoctor(Doctor doctor) {
+            try (DataFiles.WriteLock lock = DataFiles.lockForWrite(DataFiles.path(FILE_NAME))) {
+                List<Doctor> doctors = getAllDoctors();
+                doctors.add(doctor);
+                if (!saveAllDoctors(doctors)) {
+                    return false;
+                }
+                lock.recordWrite();
+                bus.publish(EntityType.DOCTOR, doctor.getId(), ChangeOp.INSERT, null, Doctor.fromString(doctor.toString()));
+                return true;
+            }
         }
 
-        public void updateDoctor(Doctor doctor) {
-            List<Doctor> doctors = getAllDoctors();
-            for (int i = 0; i < doctors.size(); i++) {
-                if (doctors.get(i).getId() == doctor.getId()) {
-                    doctors.set(i, doctor);
-                    break;
+        public boolean updateDoctor(Doctor doctor) {
+            try (DataFiles.WriteLock lock = DataFiles.lockForWrite(DataFiles.path(FILE_NAME))) {
+                List<Doctor> doctors = getAllDoctors();
+                Doctor before = null;
+                for (int i = 0; i < doctors.size(); i++) {
+                    if (doctors.get(i).getId() == doctor.getId()) {
+                        before = doctors.set(i, doctor);
+                        break;
+                    }
                 }
+                if (!saveAllDoctors(doctors)) {
+                    return false;
+                }
+                lock.recordWrite();
+                if (before == null) {
+                    return false;
+                }
+                bus.publish(EntityType.DOCTOR, doctor.getId(), ChangeOp.UPDATE, before, Doctor.fromString(doctor.toString()));
+                return true;
             }
-            saveAllDoctors(doctors);
         }
 
-        public void deleteDoctor(int id) {
-            List<Doctor> doctors = getAllDoctors();
-            doctors.removeIf(d -> d.getId() == id);
-            saveAllDoctors(doctors);
+        public boolean deleteDoctor(int id) {
+            try (DataFiles.WriteLock lock = DataFiles.lockForWrite(DataFiles.path(FILE_NAME))) {
+                List<Doctor> doctors = getAllDoctors();
+                Doctor before = null;
+                for (Iterator<Doctor> it = doctors.iterator(); it.hasNext(); ) {
+                    Doctor d = it.next();
+                    if (d.getId() == id) {
+                        before = d;
+                        it.remove();
+                    }
+                }
+                if (!saveAllDoctors(doctors)) {
+                    return false;
+                }
+                lock.recordWrite();
+                if (before == null) {
+                    return false;
+                }
+                bus.publish(EntityType.DOCTOR, id, ChangeOp.DELETE, before, null);
+                return true;
+            }
         }
 
         public Doctor getDoctorById(int id) {
@@ -301,11 +679,17 @@ public class SmartHealthApp {
     }
 
     static class AppointmentDAO {
-        private static final String FILE_PATH = "data/appointments.txt";
+        static final String FILE_NAME = "appointments.txt";
+        private final ChangeEventBus bus = ChangeEventBus.getDefault();
+        private PrintStream out = System.out;
+
+        public void setOutput(PrintStream out) {
+            this.out = out;
+        }
 
         public List<Appointment> getAllAppointments() {
             List<Appointment> appointments = new ArrayList<>();
-            try (BufferedReader br = new BufferedReader(new FileReader(FILE_PATH))) {
+            try (BufferedReader br = new BufferedReader(new FileReader(DataFiles.path(FILE_NAME)))) {
                 String line;
                 while ((line = br.readLine()) != null) {
                     if (!line.trim().isEmpty())
@@ -317,38 +701,72 @@ public class SmartHealthApp {
             return appointments;
         }
 
-        public void saveAllAppointments(List<Appointment> appointments) {
-            try (BufferedWriter bw = new BufferedWriter(new FileWriter(FILE_PATH))) {
-                for (Appointment a : appointments) {
-                    bw.write(a.toString());
-                    bw.newLine();
-                }
+        public boolean saveAllAppointments(List<Appointment> appointments) {
+            try {
+                DataFiles.writeLines(DataFiles.path(FILE_NAME), appointments);
+                return true;
             } catch (IOException e) {
-                System.out.println("Error saving appointments: " + e.getMessage());
+                out.println("Error saving appointments: " + e.getMessage());
+                return false;
             }
         }
 
-        public void addAppointment(Appointment appointment) {
-            List<Appointment> appointments = getAllAppointments();
-            appointments.add(appointment);
-            saveAllAppointments(appointments);
+        public boolean addAppointment(Appointment appointment) {
+            try (DataFiles.WriteLock lock = DataFiles.lockForWrite(DataFiles.path(FILE_NAME))) {
+                List<Appointment> appointments = getAllAppointments();
+                appointments.add(appointment);
+                if (!saveAllAppointments(appointments)) {
+                    return false;
+                }
+                lock.recordWrite();
+                bus.publish(EntityType.APPOINTMENT, appointment.getId(), ChangeOp.INSERT, null, Appointment.fromString(appointment.toString()));
+                return true;
+            }
         }
 
-        public void updateAppointment(Appointment appointment) {
-            List<Appointment> appointments = getAllAppointments();
-            for (int i = 0; i < appointments.size(); i++) {
-                if (appointments.get(i).getId() == appointment.getId()) {
-                    appointments.set(i, appointment);
-                    break;
+        public boolean updateAppointment(Appointment appointment) {
+            try (DataFiles.WriteLock lock = DataFiles.lockForWrite(DataFiles.path(FILE_NAME))) {
+                List<Appointment> appointments = getAllAppointments();
+                Appointment before = null;
+                for (int i = 0; i < appointments.size(); i++) {
+                    if (appointments.get(i).getId() == appointment.getId()) {
+                        before = appointments.set(i, appointment);
+                        break;
+                    }
+                }
+                if (!saveAllAppointments(appointments)) {
+                    return false;
+                }
+                lock.recordWrite();
+                if (before == null) {
+                    return false;
                 }
+                bus.publish(EntityType.APPOINTMENT, appointment.getId(), ChangeOp.UPDATE, before, Appointment.fromString(appointment.toString()));
+                return true;
             }
-            saveAllAppointments(appointments);
         }
 
-        public void deleteAppointment(int id) {
-            List<Appointment> appointments = getAllAppointments();
-            appointments.removeIf(a -> a.getId() == id);
-            saveAllAppointments(appointments);
+        public boolean deleteAppointment(int id) {
+            try (DataFiles.WriteLock lock = DataFiles.lockForWrite(DataFiles.path(FILE_NAME))) {
+                List<Appointment> appointments = getAllAppointments();
+                Appointment before = null;
+                for (Iterator<Appointment> it = appointments.iterator(); it.hasNext(); ) {
+                    Appointment a = it.next();
+                    if (a.getId() == id) {
+                        before = a;
+                        it.remove();
+                    }
+                }
+                if (!saveAllAppointments(appointments)) {
+                    return false;
+                }
+                lock.recordWrite();
+                if (before == null) {
+                    return false;
+                }
+                bus.publish(EntityType.APPOINTMENT, id, ChangeOp.DELETE, before, null);
+                return true;
+            }
         }
 
         public Appointment getAppointmentById(int id) {
@@ -368,73 +786,517 @@ public class SmartHealthApp {
         }
     }
 
+    // ==============================
+    // Materialized Views
+    // ==============================
+    // In-memory view fed by the change-event stream: subclasses load everything in rebuild() and patch
+    // themselves in apply(). A full rebuild happens on first use, after falling a whole ring behind, and
+    // when a data file was changed by another process (a batch run, --generate, a second console).
+    abstract static class ChangeFedView {
+        private static final int BATCH_SIZE = 256;
+
+        private final ChangeSubscription subscription;
+        private final String[] fileNames;
+        private final Map<String, String> fileStamps = new HashMap<>();
+        private boolean loaded;
+
+        protected ChangeFedView(ChangeEventBus bus, String name, String... fileNames) {
+            this.subscription = bus.subscribe(name);
+            this.fileNames = fileNames;
+        }
+
+        protected abstract void rebuild();
+
+        protected abstract void apply(ChangeEvent event);
+
+        protected synchronized void refresh() {
+            if (!loaded || subscription.consumeOverrun() || changedExternally()) {
+                reload();
+            }
+            subscription.drain(BATCH_SIZE, batch -> batch.forEach(this::apply));
+            if (subscription.consumeOverrun()) {
+                reload();
+            }
+        }
+
+        // A change made up only of our own DAO writes since we last looked is already covered by
+        // change events; anything else means another process edited the file.
+        private boolean changedExternally() {
+            for (String fileName : fileNames) {
+                String path = DataFiles.path(fileName);
+                String stamp = DataFiles.stamp(path);
+                if (stamp.equals(fileStamps.get(path))) continue;
+                if (!stamp.equals(DataFiles.followOwnWrites(path, fileStamps.get(path)))) return true;
+                fileStamps.put(path, stamp);
+            }
+            return false;
+        }
+
+        // Events published while the files are being read are replayed afterwards; applying them
+        // is idempotent, so the view still converges on the latest state.
+        private void reload() {
+            for (String fileName : fileNames) {
+                String path = DataFiles.path(fileName);
+                fileStamps.put(path, DataFiles.stamp(path));
+            }
+            rebuild();
+            loaded = true;
+        }
+    }
+
+    static class AppointmentRow {
+        private final int id;
+        private final int patientId;
+        private final int doctorId;
+        private final String date;
+        private final String time;
+        private final String patientName;
+        private final String doctorName;
+
+        public AppointmentRow(Appointment a, String patientName, String doctorName) {
+            this(a.getId(), a.getPatientId(), a.getDoctorId(), a.getDate(), a.getTime(), patientName, doctorName);
+        }
+
+        private AppointmentRow(int id, int patientId, int doctorId, String date, String time, String patientName, String doctorName) {
+            this.id = id;
+            this.patientId = patientId;
+            this.doctorId = doctorId;
+            this.date = date;
+            this.time = time;
+            this.patientName = patientName;
+            this.doctorName = doctorName;
+        }
+
+        public int getId() { return id; }
+        public int getPatientId() { return patientId; }
+        public int getDoctorId() { return doctorId; }
+        public String getDate() { return date; }
+        public String getTime() { return time; }
+        public String getPatientName() { return patientName; }
+        public String getDoctorName() { return doctorName; }
+
+        public AppointmentRow withPatientName(String name) {
+            return new AppointmentRow(id, patientId, doctorId, date, time, name, doctorName);
+        }
+
+        public AppointmentRow withDoctorName(String name) {
+            return new AppointmentRow(id, patientId, doctorId, date, time, patientName, name);
+        }
+    }
+
+    // Appointment listing joined with patient and doctor names, kept current from the change-event
+    // stream instead of re-reading all three files on every call. Rows are immutable and slices hold
+    // appointment ids, so a rename swaps rows without touching any cached slice.
+    static class AppointmentView extends ChangeFedView {
+        private static final int MAX_SLICES = 64;
+        static final AppointmentView SHARED = new AppointmentView(ChangeEventBus.getDefault());
+
+        private final PatientDAO patientDAO = new PatientDAO();
+        private final DoctorDAO doctorDAO = new DoctorDAO();
+        private final AppointmentDAO appointmentDAO = new AppointmentDAO();
+
+        private final Map<Integer, AppointmentRow> rows = new LinkedHashMap<>();
+        private final Map<Integer, String> patientNames = new HashMap<>();
+        private final Map<Integer, String> doctorNames = new HashMap<>();
+        private final Map<Integer, Set<Integer>> rowsByPatient = new HashMap<>();
+        private final Map<Integer, Set<Integer>> rowsByDoctor = new HashMap<>();
+        private final Map<Integer, List<Integer>> doctorSlices = lruMap();
+        private final Map<String, List<Integer>> daySlices = lruMap();
+
+        public AppointmentView(ChangeEventBus bus) {
+            super(bus, "appointment-view", PatientDAO.FILE_NAME, DoctorDAO.FILE_NAME, AppointmentDAO.FILE_NAME);
+        }
+
+        private static <K> Map<K, List<Integer>> lruMap() {
+            return new LinkedHashMap<K, List<Integer>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, List<Integer>> eldest) {
+                    return size() > MAX_SLICES;
+                }
+            };
+        }
+
+        public synchronized List<AppointmentRow> getAll() {
+            refresh();
+            return new ArrayList<>(rows.values());
+        }
+
+        public synchronized List<AppointmentRow> getByDoctor(int doctorId) {
+            refresh();
+            List<Integer> slice = doctorSlices.get(doctorId);
+            if (slice == null) {
+                slice = new ArrayList<>(rowsByDoctor.getOrDefault(doctorId, Collections.emptySet()));
+                doctorSlices.put(doctorId, slice);
+            }
+            return toRows(slice);
+        }
+
+        public synchronized List<AppointmentRow> getByDate(String date) {
+            refresh();
+            List<Integer> slice = daySlices.get(date);
+            if (slice == null) {
+                slice = new ArrayList<>();
+                for (AppointmentRow row : rows.values()) {
+                    if (row.getDate().equals(date)) slice.add(row.getId());
+                }
+                daySlices.put(date, slice);
+            }
+            return toRows(slice);
+        }
+
+        private List<AppointmentRow> toRows(List<Integer> ids) {
+            List<AppointmentRow> result = new ArrayList<>(ids.size());
+            for (int id : ids) {
+                result.add(rows.get(id));
+            }
+            return result;
+        }
+
+        @Override
+        protected void rebuild() {
+            rows.clear();
+            patientNames.clear();
+            doctorNames.clear();
+            rowsByPatient.clear();
+            rowsByDoctor.clear();
+            doctorSlices.clear();
+            daySlices.clear();
+            for (Patient p : patientDAO.getAllPatients()) {
+                patientNames.put(p.getId(), p.getName());
+            }
+            for (Doctor d : doctorDAO.getAllDoctors()) {
+                doctorNames.put(d.getId(), d.getName());
+            }
+            for (Appointment a : appointmentDAO.getAllAppointments()) {
+                upsertRow(a);
+            }
+        }
+
+        @Override
+        protected void apply(ChangeEvent event) {
+            switch (event.getEntity()) {
+                case APPOINTMENT:
+                    if (event.getOp() == ChangeOp.DELETE) {
+                        removeRow(event.getEntityId());
+                    } else {
+                        upsertRow((Appointment) event.getAfter());
+                    }
+                    break;
+                case PATIENT:
+                    String patientName = event.getOp() == ChangeOp.DELETE ? null : ((Patient) event.getAfter()).getName();
+                    if (rename(patientNames, event.getEntityId(), patientName)) {
+                        for (int id : rowsByPatient.getOrDefault(event.getEntityId(), Collections.emptySet())) {
+                            rows.put(id, rows.get(id).withPatientName(patientName));
+                        }
+                    }
+                    break;
+                case DOCTOR:
+                    String doctorName = event.getOp() == ChangeOp.DELETE ? null : ((Doctor) event.getAfter()).getName();
+                    if (rename(doctorNames, event.getEntityId(), doctorName)) {
+                        for (int id : rowsByDoctor.getOrDefault(event.getEntityId(), Collections.emptySet())) {
+                            rows.put(id, rows.get(id).withDoctorName(doctorName));
+                        }
+                    }
+                    break;
+            }
+        }
+
+        private static boolean rename(Map<Integer, String> names, int id, String name) {
+            String old = name == null ? names.remove(id) : names.put(id, name);
+            return !Objects.equals(old, name);
+        }
+
+        private void upsertRow(Appointment a) {
+            AppointmentRow row = new AppointmentRow(a, patientNames.get(a.getPatientId()), doctorNames.get(a.getDoctorId()));
+            AppointmentRow old = rows.put(a.getId(), row);
+            if (old == null) {
+                List<Integer> doctorSlice = doctorSlices.get(row.getDoctorId());
+                if (doctorSlice != null) doctorSlice.add(row.getId());
+                List<Integer> daySlice = daySlices.get(row.getDate());
+                if (daySlice != null) daySlice.add(row.getId());
+                index(row);
+            } else {
+                // Index entries stay put when only the date or time changed, so per-doctor listings
+                // keep file order
+                if (old.getPatientId() != row.getPatientId() || old.getDoctorId() != row.getDoctorId()) {
+                    unindex(old);
+                    index(row);
+                }
+                doctorSlices.remove(old.getDoctorId());
+                doctorSlices.remove(row.getDoctorId());
+                daySlices.remove(old.getDate());
+                daySlices.remove(row.getDate());
+            }
+        }
+
+        private void index(AppointmentRow row) {
+            rowsByPatient.computeIfAbsent(row.getPatientId(), k -> new LinkedHashSet<>()).add(row.getId());
+            rowsByDoctor.computeIfAbsent(row.getDoctorId(), k -> new LinkedHashSet<>()).add(row.getId());
+        }
+
+        private void removeRow(int id) {
+            AppointmentRow old = rows.remove(id);
+            if (old == null) return;
+            unindex(old);
+            List<Integer> doctorSlice = doctorSlices.get(old.getDoctorId());
+            if (doctorSlice != null) doctorSlice.remove(Integer.valueOf(id));
+            List<Integer> daySlice = daySlices.get(old.getDate());
+            if (daySlice != null) daySlice.remove(Integer.valueOf(id));
+        }
+
+        private void unindex(AppointmentRow row) {
+            Set<Integer> byPatient = rowsByPatient.get(row.getPatientId());
+            if (byPatient != null) byPatient.remove(row.getId());
+            Set<Integer> byDoctor = rowsByDoctor.get(row.getDoctorId());
+            if (byDoctor != null) byDoctor.remove(row.getId());
+        }
+    }
+
+    static class AvailableSlot {
+        private final int doctorId;
+        private final String doctorName;
+        private final LocalDateTime start;
+
+        public AvailableSlot(int doctorId, String doctorName, LocalDateTime start) {
+            this.doctorId = doctorId;
+            this.doctorName = doctorName;
+            this.start = start;
+        }
+
+        public int getDoctorId() { return doctorId; }
+        public String getDoctorName() { return doctorName; }
+        public LocalDateTime getStart() { return start; }
+    }
+
+    // Per-doctor booked start times, grouped by specialization, for free-slot searches. Times are kept
+    // as minutes since the epoch; every appointment is assumed to last the slot length being searched.
+    static class AvailabilityIndex extends ChangeFedView {
+        static final int MAX_SLOTS = 100;
+        private static final int MINUTES_PER_DAY = 24 * 60;
+        static final AvailabilityIndex SHARED = new AvailabilityIndex(ChangeEventBus.getDefault());
+
+        private final DoctorDAO doctorDAO = new DoctorDAO();
+        private final AppointmentDAO appointmentDAO = new AppointmentDAO();
+
+        private final Map<Integer, Doctor> doctors = new HashMap<>();
+        private final Map<String, Set<Integer>> doctorsBySpecialization = new HashMap<>();
+        private final Map<Integer, Appointment> appointments = new HashMap<>();
+        private final Map<Integer, TreeMap<Long, Integer>> bookings = new HashMap<>();
+
+        public AvailabilityIndex(ChangeEventBus bus) {
+            super(bus, "availability-index", DoctorDAO.FILE_NAME, AppointmentDAO.FILE_NAME);
+        }
+
+        public synchronized List<AvailableSlot> findSlots(String specialization, LocalDateTime earliest, int slotMinutes,
+                                                          LocalTime workStart, LocalTime workEnd, int count) {
+            refresh();
+            count = Math.min(count, MAX_SLOTS);
+            List<AvailableSlot> slots = new ArrayList<>();
+            long open = workStart.toSecondOfDay() / 60;
+            long close = workEnd.toSecondOfDay() / 60;
+            if (slotMinutes <= 0 || open + slotMinutes > close || count <= 0) return slots;
+
+            // Heap of {next free start, doctor id}; the head is always the earliest slot still unreported.
+            PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) ->
+                    a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+            long from = toMinutes(earliest.toLocalDate(), earliest.toLocalTime());
+            for (int doctorId : doctorsBySpecialization.getOrDefault(key(specialization), Collections.emptySet())) {
+                queue.add(new long[]{nextFree(doctorId, from, slotMinutes, open, close), doctorId});
+            }
+            while (slots.size() < count && !queue.isEmpty()) {
+                long[] head = queue.poll();
+                int doctorId = (int) head[1];
+                slots.add(new AvailableSlot(doctorId, doctors.get(doctorId).getName(), toDateTime(head[0])));
+                head[0] = nextFree(doctorId, head[0] + slotMinutes, slotMinutes, open, close);
+                queue.add(head);
+            }
+            return slots;
+        }
+
+        // First slot-grid start at or after t that lies inside working hours and overlaps no booking.
+        private long nextFree(int doctorId, long t, int slotMinutes, long open, long close) {
+            TreeMap<Long, Integer> booked = bookings.getOrDefault(doctorId, new TreeMap<>());
+            while (true) {
+                long day = Math.floorDiv(t, MINUTES_PER_DAY);
+                long minute = t - day * MINUTES_PER_DAY;
+                if (minute < open) {
+                    t = day * MINUTES_PER_DAY + open;
+                    continue;
+                }
+                long offset = (minute - open) % slotMinutes;
+                if (offset != 0) {
+                    t += slotMinutes - offset;
+                    continue;
+                }
+                if (minute + slotMinutes > close) {
+                    t = (day + 1) * MINUTES_PER_DAY + open;
+                    continue;
+                }
+                Long conflict = booked.higherKey(t - slotMinutes);
+                if (conflict != null && conflict < t + slotMinutes) {
+                    t = conflict + slotMinutes;
+                    continue;
+                }
+                return t;
+            }
+        }
+
+        @Override
+        protected void rebuild() {
+            doctors.clear();
+            doctorsBySpecialization.clear();
+            appointments.clear();
+            bookings.clear();
+            for (Doctor d : doctorDAO.getAllDoctors()) {
+                putDoctor(d);
+            }
+            for (Appointment a : appointmentDAO.getAllAppointments()) {
+                putAppointment(a);
+            }
+        }
+
+        @Override
+        protected void apply(ChangeEvent event) {
+            switch (event.getEntity()) {
+                case DOCTOR:
+                    removeDoctor(event.getEntityId());
+                    if (event.getOp() != ChangeOp.DELETE) putDoctor((Doctor) event.getAfter());
+                    break;
+                case APPOINTMENT:
+                    removeAppointment(event.getEntityId());
+                    if (event.getOp() != ChangeOp.DELETE) putAppointment((Appointment) event.getAfter());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void putDoctor(Doctor d) {
+            removeDoctor(d.getId());
+            doctors.put(d.getId(), d);
+            doctorsBySpecialization.computeIfAbsent(key(d.getSpecialization()), k -> new HashSet<>()).add(d.getId());
+        }
+
+        private void removeDoctor(int id) {
+            Doctor old = doctors.remove(id);
+            if (old == null) return;
+            Set<Integer> ids = doctorsBySpecialization.get(key(old.getSpecialization()));
+            if (ids != null) ids.remove(id);
+        }
+
+        private void putAppointment(Appointment a) {
+            removeAppointment(a.getId());
+            Long start = bookingMinute(a);
+            if (start == null) return;
+            appointments.put(a.getId(), a);
+            bookings.computeIfAbsent(a.getDoctorId(), k -> new TreeMap<>()).merge(start, 1, Integer::sum);
+        }
+
+        private void removeAppointment(int id) {
+            Appointment old = appointments.remove(id);
+            if (old == null) return;
+            TreeMap<Long, Integer> booked = bookings.get(old.getDoctorId());
+            if (booked != null) booked.computeIfPresent(bookingMinute(old), (k, n) -> n > 1 ? n - 1 : null);
+        }
+
+        private static Long bookingMinute(Appointment a) {
+            try {
+                return toMinutes(LocalDate.parse(a.getDate()), LocalTime.parse(a.getTime()));
+            } catch (DateTimeException e) {
+                return null;
+            }
+        }
+
+        private static long toMinutes(LocalDate date, LocalTime time) {
+            return date.toEpochDay() * MINUTES_PER_DAY + time.toSecondOfDay() / 60;
+        }
+
+        private static LocalDateTime toDateTime(long minutes) {
+            long day = Math.floorDiv(minutes, MINUTES_PER_DAY);
+            return LocalDate.ofEpochDay(day).atStartOfDay().plusMinutes(minutes - day * MINUTES_PER_DAY);
+        }
+
+        private static String key(String specialization) {
+            return specialization.trim().toLowerCase();
+        }
+    }
+
     // ==============================
     // Service Classes
     // ==============================
     static class PatientService {
         private PatientDAO dao = new PatientDAO();
+        private PrintStream out = System.out;
+
+        public void setOutput(PrintStream out) {
+            this.out = out;
+            dao.setOutput(out);
+        }
 
-        public void addPatient(String name, int age, String gender, String contact) {
+        public boolean addPatient(String name, int age, String gender, String contact) {
             if (!InputValidator.isValidName(name)) {
-                System.out.println("Invalid name.");
-                return;
+                out.println("Invalid name.");
+                return false;
             }
             if (!InputValidator.isValidAge(age)) {
-                System.out.println("Invalid age.");
-                return;
+                out.println("Invalid age.");
+                return false;
             }
             if (!InputValidator.isValidGender(gender)) {
-                System.out.println("Invalid gender.");
-                return;
+                out.println("Invalid gender.");
+                return false;
             }
             if (!InputValidator.isValidContact(contact)) {
-                System.out.println("Invalid contact number.");
-                return;
+                out.println("Invalid contact number.");
+                return false;
             }
             int id = dao.getNextId();
             Patient patient = new Patient(id, name, age, gender, contact);
-            dao.addPatient(patient);
-            System.out.println("Patient added successfully with ID: " + id);
+            if (!dao.addPatient(patient)) return false;
+            out.println("Patient added successfully with ID: " + id);
+            return true;
         }
 
-        public void updatePatient(int id, String name, int age, String gender, String contact) {
+        public boolean updatePatient(int id, String name, int age, String gender, String contact) {
             Patient patient = dao.getPatientById(id);
             if (patient == null) {
-                System.out.println("Patient not found.");
-                return;
+                out.println("Patient not found.");
+                return false;
             }
             if (!InputValidator.isValidName(name) || !InputValidator.isValidAge(age) ||
                     !InputValidator.isValidGender(gender) || !InputValidator.isValidContact(contact)) {
-                System.out.println("Invalid input(s).");
-                return;
+                out.println("Invalid input(s).");
+                return false;
             }
             patient.setName(name);
             patient.setAge(age);
             patient.setGender(gender);
             patient.setContact(contact);
-            dao.updatePatient(patient);
-            System.out.println("Patient updated successfully.");
+            if (!dao.updatePatient(patient)) return false;
+            out.println("Patient updated successfully.");
+            return true;
         }
 
-        public void deletePatient(int id) {
+        public boolean deletePatient(int id) {
             Patient patient = dao.getPatientById(id);
             if (patient == null) {
-                System.out.println("Patient not found.");
-                return;
+                out.println("Patient not found.");
+                return false;
             }
-            dao.deletePatient(id);
-            System.out.println("Patient deleted successfully.");
+            if (!dao.deletePatient(id)) return false;
+            out.println("Patient deleted successfully.");
+            return true;
         }
 
         public void listPatients() {
             List<Patient> patients = dao.getAllPatients();
             if (patients.isEmpty()) {
-                System.out.println("No patients found.");
+                out.println("No patients found.");
                 return;
             }
-            System.out.println("Patient List:");
+            out.println("Patient List:");
             for (Patient p : patients) {
-                System.out.println("ID: " + p.getId() + ", Name: " + p.getName() +
+                out.println("ID: " + p.getId() + ", Name: " + p.getName() +
                         ", Age: " + p.getAge() + ", Gender: " + p.getGender() +
                         ", Contact: " + p.getContact());
             }
@@ -443,63 +1305,72 @@ public class SmartHealthApp {
 
     static class DoctorService {
         private DoctorDAO dao = new DoctorDAO();
+        private PrintStream out = System.out;
 
-        public void addDoctor(String name, String specialization, String contact) {
+        public void setOutput(PrintStream out) {
+            this.out = out;
+            dao.setOutput(out);
+        }
+
+        public boolean addDoctor(String name, String specialization, String contact) {
             if (!InputValidator.isValidName(name)) {
-                System.out.println("Invalid name.");
-                return;
+                out.println("Invalid name.");
+                return false;
             }
             if (!InputValidator.isValidSpecialization(specialization)) {
-                System.out.println("Invalid specialization.");
-                return;
+                out.println("Invalid specialization.");
+                return false;
             }
             if (!InputValidator.isValidContact(contact)) {
-                System.out.println("Invalid contact number.");
-                return;
+                out.println("Invalid contact number.");
+                return false;
             }
             int id = dao.getNextId();
             Doctor doctor = new Doctor(id, name, specialization, contact);
-            dao.addDoctor(doctor);
-            System.out.println("Doctor added successfully with ID: " + id);
+            if (!dao.addDoctor(doctor)) return false;
+            out.println("Doctor added successfully with ID: " + id);
+            return true;
         }
 
-        public void updateDoctor(int id, String name, String specialization, String contact) {
+        public boolean updateDoctor(int id, String name, String specialization, String contact) {
             Doctor doctor = dao.getDoctorById(id);
             if (doctor == null) {
-                System.out.println("Doctor not found.");
-                return;
+                out.println("Doctor not found.");
+                return false;
             }
             if (!InputValidator.isValidName(name) || !InputValidator.isValidSpecialization(specialization) ||
                     !InputValidator.isValidContact(contact)) {
-                System.out.println("Invalid input(s).");
-                return;
+                out.println("Invalid input(s).");
+                return false;
             }
             doctor.setName(name);
             doctor.setSpecialization(specialization);
             doctor.setContact(contact);
-            dao.updateDoctor(doctor);
-            System.out.println("Doctor updated successfully.");
+            if (!dao.updateDoctor(doctor)) return false;
+            out.println("Doctor updated successfully.");
+            return true;
         }
 
-        public void deleteDoctor(int id) {
+        public boolean deleteDoctor(int id) {
             Doctor doctor = dao.getDoctorById(id);
             if (doctor == null) {
-                System.out.println("Doctor not found.");
-                return;
+                out.println("Doctor not found.");
+                return false;
             }
-            dao.deleteDoctor(id);
-            System.out.println("Doctor deleted successfully.");
+            if (!dao.deleteDoctor(id)) return false;
+            out.println("Doctor deleted successfully.");
+            return true;
         }
 
         public void listDoctors() {
             List<Doctor> doctors = dao.getAllDoctors();
             if (doctors.isEmpty()) {
-                System.out.println("No doctors found.");
+                out.println("No doctors found.");
                 return;
             }
-            System.out.println("Doctor List:");
+            out.println("Doctor List:");
             for (Doctor d : doctors) {
-                System.out.println("ID: " + d.getId() + ", Name: " + d.getName() +
+                out.println("ID: " + d.getId() + ", Name: " + d.getName() +
                         ", Specialization: " + d.getSpecialization() +
                         ", Contact: " + d.getContact());
             }
@@ -510,73 +1381,671 @@ public class SmartHealthApp {
         private AppointmentDAO dao = new AppointmentDAO();
         private PatientDAO patientDAO = new PatientDAO();
         private DoctorDAO doctorDAO = new DoctorDAO();
+        private AppointmentView view = AppointmentView.SHARED;
+        private AvailabilityIndex availability = AvailabilityIndex.SHARED;
+        private PrintStream out = System.out;
+
+        public void setOutput(PrintStream out) {
+            this.out = out;
+            dao.setOutput(out);
+        }
 
-        public void addAppointment(int patientId, int doctorId, String date, String time) {
+        public boolean addAppointment(int patientId, int doctorId, String date, String time) {
             Patient patient = patientDAO.getPatientById(patientId);
             Doctor doctor = doctorDAO.getDoctorById(doctorId);
 
             if (patient == null) {
-                System.out.println("Invalid patient ID.");
-                return;
+                out.println("Invalid patient ID.");
+                return false;
             }
             if (doctor == null) {
-                System.out.println("Invalid doctor ID.");
-                return;
+                out.println("Invalid doctor ID.");
+                return false;
             }
             if (!InputValidator.isValidDate(date)) {
-                System.out.println("Invalid date format. Use YYYY-MM-DD.");
-                return;
+                out.println("Invalid date format. Use YYYY-MM-DD.");
+                return false;
             }
             if (!InputValidator.isValidTime(time)) {
-                System.out.println("Invalid time format. Use HH:MM.");
-                return;
+                out.println("Invalid time format. Use HH:MM.");
+                return false;
             }
             int id = dao.getNextId();
             Appointment appointment = new Appointment(id, patientId, doctorId, date, time);
-            dao.addAppointment(appointment);
-            System.out.println("Appointment scheduled successfully with ID: " + id);
+            if (!dao.addAppointment(appointment)) return false;
+            out.println("Appointment scheduled successfully with ID: " + id);
+            return true;
         }
 
-        public void updateAppointment(int id, String date, String time) {
+        public boolean updateAppointment(int id, String date, String time) {
             Appointment appointment = dao.getAppointmentById(id);
             if (appointment == null) {
-                System.out.println("Appointment not found.");
-                return;
+                out.println("Appointment not found.");
+                return false;
             }
             if (!InputValidator.isValidDate(date) || !InputValidator.isValidTime(time)) {
-                System.out.println("Invalid date or time format.");
-                return;
+                out.println("Invalid date or time format.");
+                return false;
             }
             appointment.setDate(date);
             appointment.setTime(time);
-            dao.updateAppointment(appointment);
-            System.out.println("Appointment updated successfully.");
+            if (!dao.updateAppointment(appointment)) return false;
+            out.println("Appointment updated successfully.");
+            return true;
         }
 
-        public void deleteAppointment(int id) {
+        public boolean deleteAppointment(int id) {
             Appointment appointment = dao.getAppointmentById(id);
             if (appointment == null) {
-                System.out.println("Appointment not found.");
-                return;
+                out.println("Appointment not found.");
+                return false;
             }
-            dao.deleteAppointment(id);
-            System.out.println("Appointment cancelled successfully.");
+            if (!dao.deleteAppointment(id)) return false;
+            out.println("Appointment cancelled successfully.");
+            return true;
         }
 
         public void listAppointments() {
-            List<Appointment> appointments = dao.getAllAppointments();
-            if (appointments.isEmpty()) {
-                System.out.println("No appointments found.");
+            printAppointments(view.getAll(), "No appointments found.");
+        }
+
+        public void listAppointmentsByDoctor(int doctorId) {
+            printAppointments(view.getByDoctor(doctorId), "No appointments found for this doctor.");
+        }
+
+        public void listAppointmentsByDate(String date) {
+            if (!InputValidator.isValidDate(date)) {
+                out.println("Invalid date format. Use YYYY-MM-DD.");
                 return;
             }
-            System.out.println("Appointment List:");
-            for (Appointment a : appointments) {
-                Patient p = patientDAO.getPatientById(a.getPatientId());
-                Doctor d = doctorDAO.getDoctorById(a.getDoctorId());
-                System.out.println("ID: " + a.getId() + ", Patient: " + (p != null ? p.getName() : "Unknown") +
-                        ", Doctor: " + (d != null ? d.getName() : "Unknown") +
-                        ", Date: " + a.getDate() + ", Time: " + a.getTime());
+            printAppointments(view.getByDate(date), "No appointments found on this date.");
+        }
+
+        public boolean findAvailableSlots(String specialization, String date, String time, int slotMinutes,
+                                          String workStart, String workEnd, int count) {
+            if (!InputValidator.isValidSpecialization(specialization)) {
+                out.println("Invalid specialization.");
+                return false;
+            }
+            if (!InputValidator.isValidDate(date) || !InputValidator.isValidTime(time) ||
+                    !InputValidator.isValidTime(workStart) || !InputValidator.isValidTime(workEnd)) {
+                out.println("Invalid date or time format.");
+                return false;
+            }
+            if (slotMinutes <= 0 || count <= 0 || count > AvailabilityIndex.MAX_SLOTS) {
+                out.println("Slot length must be positive and count between 1 and " + AvailabilityIndex.MAX_SLOTS + ".");
+                return false;
+            }
+            List<AvailableSlot> slots;
+            try {
+                LocalTime open = LocalTime.parse(workStart);
+                LocalTime close = LocalTime.parse(workEnd);
+                if (open.plusMinutes(slotMinutes).isAfter(close) || !open.isBefore(close)) {
+                    out.println("Working hours are shorter than one slot.");
+                    return false;
+                }
+                slots = availability.findSlots(specialization, LocalDateTime.of(LocalDate.parse(date), LocalTime.parse(time)),
+                        slotMinutes, open, close, count);
+            } catch (DateTimeException e) {
+                out.println("Invalid date or time.");
+                return false;
+            }
+            if (slots.isEmpty()) {
+                out.println("No doctors found with this specialization.");
+                return true;
+            }
+            out.println("Available Slots:");
+            for (AvailableSlot slot : slots) {
+                out.println("Date: " + slot.getStart().toLocalDate() + ", Time: " + slot.getStart().toLocalTime() +
+                        ", Doctor: " + slot.getDoctorName() + " (ID: " + slot.getDoctorId() + ")");
+            }
+            return true;
+        }
+
+        private void printAppointments(List<AppointmentRow> rows, String emptyMessage) {
+            if (rows.isEmpty()) {
+                out.println(emptyMessage);
+                return;
+            }
+            out.println("Appointment List:");
+            for (AppointmentRow r : rows) {
+                out.println("ID: " + r.getId() + ", Patient: " + (r.getPatientName() != null ? r.getPatientName() : "Unknown") +
+                        ", Doctor: " + (r.getDoctorName() != null ? r.getDoctorName() : "Unknown") +
+                        ", Date: " + r.getDate() + ", Time: " + r.getTime());
+            }
+        }
+    }
+
+    // ==============================
+    // Batch Mode
+    // ==============================
+    // Runs one command per line, e.g. "schedule 1,2,2025-06-10,10:00". Arguments are comma separated
+    // like the data files; blank lines and lines starting with '#' are skipped.
+    static class MalformedCommandException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        public MalformedCommandException(String message) {
+            super(message);
+        }
+    }
+
+    static class BatchRunner {
+        static final Set<String> COMMANDS = new HashSet<>(Arrays.asList("add-patient", "update-patient",
+                "delete-patient", "list-patients", "add-doctor", "update-doctor", "delete-doctor", "list-doctors",
+                "schedule", "reschedule", "cancel", "list-appointments", "list-by-doctor", "list-by-date", "find-slots"));
+
+        private final PatientService patientService;
+        private final DoctorService doctorService;
+        private final AppointmentService appointmentService;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private int ok;
+        private int failed;
+        private int malformed;
+        private int errors;
+
+        public BatchRunner(PatientService patientService, DoctorService doctorService, AppointmentService appointmentService) {
+            this.patientService = patientService;
+            this.doctorService = doctorService;
+            this.appointmentService = appointmentService;
+            PrintStream captured = new PrintStream(buffer, true);
+            patientService.setOutput(captured);
+            doctorService.setOutput(captured);
+            appointmentService.setOutput(captured);
+        }
+
+        public int getOk() { return ok; }
+        public int getFailed() { return failed; }
+        public int getMalformed() { return malformed; }
+        public int getErrors() { return errors; }
+        public int getTotal() { return ok + failed + malformed + errors; }
+
+        public void run(BufferedReader in, PrintWriter results) throws IOException {
+            String line;
+            int lineNo = 0;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+
+                String status;
+                try {
+                    if (execute(line)) {
+                        status = "OK";
+                        ok++;
+                    } else {
+                        status = "FAIL";
+                        failed++;
+                    }
+                } catch (MalformedCommandException e) {
+                    status = "ERROR";
+                    malformed++;
+                    buffer.reset();
+                    buffer.write((e.getMessage() + System.lineSeparator()).getBytes());
+                } catch (RuntimeException e) {
+                    // e.g. a corrupt line in one of the data files; keep going with the next command
+                    status = "ERROR";
+                    errors++;
+                    buffer.write((e + System.lineSeparator()).getBytes());
+                }
+                results.println("[line " + lineNo + "] " + status + " " + line);
+                for (String outLine : buffer.toString().split("\\R")) {
+                    if (!outLine.isEmpty()) results.println("  " + outLine);
+                }
+            }
+        }
+
+        // Runs a single command; its output is left in the capture buffer until the next call.
+        boolean execute(String line) {
+            buffer.reset();
+            int space = line.indexOf(' ');
+            String command = space < 0 ? line : line.substring(0, space);
+            String[] args = space < 0 ? new String[0] : line.substring(space + 1).split(",");
+            for (int i = 0; i < args.length; i++) {
+                args[i] = args[i].trim();
+            }
+
+            switch (command.toLowerCase()) {
+                case "add-patient":
+                    expect(args, 4, "name,age,gender,contact");
+                    return patientService.addPatient(args[0], parseInt(args[1]), args[2], args[3]);
+                case "update-patient":
+                    expect(args, 5, "id,name,age,gender,contact");
+                    return patientService.updatePatient(parseInt(args[0]), args[1], parseInt(args[2]), args[3], args[4]);
+                case "delete-patient":
+                    expect(args, 1, "id");
+                    return patientService.deletePatient(parseInt(args[0]));
+                case "list-patients":
+                    expect(args, 0, "");
+                    patientService.listPatients();
+                    return true;
+                case "add-doctor":
+                    expect(args, 3, "name,specialization,contact");
+                    return doctorService.addDoctor(args[0], args[1], args[2]);
+                case "update-doctor":
+                    expect(args, 4, "id,name,specialization,contact");
+                    return doctorService.updateDoctor(parseInt(args[0]), args[1], args[2], args[3]);
+                case "delete-doctor":
+                    expect(args, 1, "id");
+                    return doctorService.deleteDoctor(parseInt(args[0]));
+                case "list-doctors":
+                    expect(args, 0, "");
+                    doctorService.listDoctors();
+                    return true;
+                case "schedule":
+                    expect(args, 4, "patientId,doctorId,date,time");
+                    return appointmentService.addAppointment(parseInt(args[0]), parseInt(args[1]), args[2], args[3]);
+                case "reschedule":
+                    expect(args, 3, "id,date,time");
+                    return appointmentService.updateAppointment(parseInt(args[0]), args[1], args[2]);
+                case "cancel":
+                    expect(args, 1, "id");
+                    return appointmentService.deleteAppointment(parseInt(args[0]));
+                case "list-appointments":
+                    expect(args, 0, "");
+                    appointmentService.listAppointments();
+                    return true;
+                case "list-by-doctor":
+                    expect(args, 1, "doctorId");
+                    appointmentService.listAppointmentsByDoctor(parseInt(args[0]));
+                    return true;
+                case "list-by-date":
+                    expect(args, 1, "date");
+                    appointmentService.listAppointmentsByDate(args[0]);
+                    return true;
+                case "find-slots":
+                    expect(args, 7, "specialization,date,time,slotMinutes,workStart,workEnd,count");
+                    return appointmentService.findAvailableSlots(args[0], args[1], args[2], parseInt(args[3]),
+                            args[4], args[5], parseInt(args[6]));
+                default:
+                    throw new MalformedCommandException("Unknown command: " + command);
+            }
+        }
+
+        private static void expect(String[] args, int count, String usage) {
+            if (args.length != count) {
+                throw new MalformedCommandException("Expected " + count + " argument(s)" +
+                        (usage.isEmpty() ? "" : ": " + usage) + ", got " + args.length);
+            }
+        }
+
+        private static int parseInt(String value) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new MalformedCommandException("Not a number: " + value);
+            }
+        }
+    }
+
+    // ==============================
+    // Load Testing
+    // ==============================
+    // Deterministic data set in the same CSV format the DAOs read; the same seed always yields the same files.
+    static class WorkloadGenerator {
+        private static final String[] FIRST_NAMES = {"Aarav", "Priya", "Rahul", "Ananya", "Vikram", "Sneha", "Arjun",
+                "Kavya", "Rohan", "Isha", "Aditya", "Meera", "Karan", "Pooja", "Siddharth", "Neha", "John", "Maria",
+                "David", "Sarah", "Michael", "Emma", "James", "Olivia"};
+        private static final String[] LAST_NAMES = {"Sharma", "Verma", "Gupta", "Singh", "Kumar", "Patel", "Reddy",
+                "Nair", "Iyer", "Das", "Mehta", "Joshi", "Kushwaha", "Smith", "Brown", "Wilson", "Taylor", "Clark"};
+        private static final String[] GENDERS = {"Male", "Female", "Other"};
+        private static final String[] SPECIALIZATIONS = {"Cardiology", "Neurology", "Orthopedics", "Pediatrics",
+                "Dermatology", "General Medicine", "Gynecology", "Psychiatry", "Oncology", "ENT"};
+
+        private final Random random;
+
+        public WorkloadGenerator(long seed) {
+            this.random = new Random(seed);
+        }
+
+        public String name() {
+            return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        }
+
+        public String doctorName() {
+            return "Dr " + name();
+        }
+
+        public int age() {
+            return 1 + random.nextInt(90);
+        }
+
+        public String gender() {
+            return GENDERS[random.nextInt(GENDERS.length)];
+        }
+
+        public String contact() {
+            return String.valueOf(6 + random.nextInt(4)) + String.format("%09d", random.nextInt(1_000_000_000));
+        }
+
+        public String specialization() {
+            return SPECIALIZATIONS[random.nextInt(SPECIALIZATIONS.length)];
+        }
+
+        // Appointments land on a 15 minute grid between 09:00 and 17:00.
+        public String time() {
+            int slot = random.nextInt(32);
+            return String.format("%02d:%02d", 9 + slot / 4, (slot % 4) * 15);
+        }
+
+        public String date(LocalDate start, int days) {
+            return start.plusDays(random.nextInt(days)).toString();
+        }
+
+        // Skewed towards low ids so a few entities are much busier than the rest, as in real clinics.
+        public int pick(int count) {
+            double r = random.nextDouble();
+            return 1 + (int) (r * r * count);
+        }
+
+        public int uniform(int count) {
+            return 1 + random.nextInt(count);
+        }
+
+        public void generate(int patients, int doctors, int appointments, LocalDate start, int days) {
+            if ((long) appointments > (long) doctors * days * 32) {
+                throw new IllegalArgumentException("Not enough doctor slots for " + appointments + " appointments.");
+            }
+            new File(DataFiles.getDirectory()).mkdirs();
+            List<Patient> patientList = new ArrayList<>();
+            for (int i = 1; i <= patients; i++) {
+                patientList.add(new Patient(i, name(), age(), gender(), contact()));
+            }
+            List<Doctor> doctorList = new ArrayList<>();
+            for (int i = 1; i <= doctors; i++) {
+                doctorList.add(new Doctor(i, doctorName(), specialization(), contact()));
+            }
+            List<Appointment> appointmentList = new ArrayList<>();
+            Set<String> booked = new HashSet<>();
+            for (int i = 1; i <= appointments; i++) {
+                int doctorId;
+                String date;
+                String time;
+                do {
+                    doctorId = pick(doctors);
+                    date = date(start, days);
+                    time = time();
+                } while (!booked.add(doctorId + "," + date + "," + time));
+                appointmentList.add(new Appointment(i, uniform(patients), doctorId, date, time));
+            }
+            new PatientDAO().saveAllPatients(patientList);
+            new DoctorDAO().saveAllDoctors(doctorList);
+            new AppointmentDAO().saveAllAppointments(appointmentList);
+        }
+    }
+
+    // Replays a weighted mix of batch commands from several threads against the real services and data files.
+    static class LoadTest {
+        static final String DEFAULT_MIX = "list-appointments=25,list-by-doctor=10,find-slots=10,schedule=20," +
+                "reschedule=10,cancel=5,add-patient=8,update-patient=4,list-patients=3,add-doctor=1," +
+                "update-doctor=2,list-doctors=2";
+        private static final String[] DATA_FILES = {PatientDAO.FILE_NAME, DoctorDAO.FILE_NAME, AppointmentDAO.FILE_NAME};
+
+        private final int threads;
+        private final long durationMillis;
+        private final long sampleMillis;
+        private final long seed;
+        private final String[] ops;
+        private final int[] cumulativeWeights;
+        private final LocalDate startDate = LocalDate.now();
+
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong malformed = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private volatile String firstError;
+        private final Map<String, AtomicLong> succeeded = new ConcurrentHashMap<>();
+        private final Map<String, Integer> startRecords = new HashMap<>();
+        private int patients;
+        private int doctors;
+        private int appointments;
+        private final Map<String, List<long[]>> latencies = new HashMap<>();
+        private final List<String> growth = new ArrayList<>();
+
+        public LoadTest(int threads, long durationMillis, long sampleMillis, long seed, String mix) {
+            if (threads <= 0 || durationMillis <= 0 || sampleMillis <= 0) {
+                throw new IllegalArgumentException("Threads, duration and sample interval must be positive.");
+            }
+            this.threads = threads;
+            this.durationMillis = durationMillis;
+            this.sampleMillis = sampleMillis;
+            this.seed = seed;
+            String[] entries = mix.split(",");
+            this.ops = new String[entries.length];
+            this.cumulativeWeights = new int[entries.length];
+            int total = 0;
+            for (int i = 0; i < entries.length; i++) {
+                String[] kv = entries[i].trim().split("=");
+                if (kv.length != 2) {
+                    throw new IllegalArgumentException("Mix entries must look like command=weight: " + entries[i]);
+                }
+                ops[i] = kv[0].trim();
+                if (!BatchRunner.COMMANDS.contains(ops[i])) {
+                    throw new IllegalArgumentException("Unknown command in mix: " + ops[i]);
+                }
+                int weight = Integer.parseInt(kv[1].trim());
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Mix weights cannot be negative: " + entries[i]);
+                }
+                total += weight;
+                cumulativeWeights[i] = total;
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException("Mix weights must add up to more than zero.");
+            }
+        }
+
+        // Runs against a scratch copy of sourceDir, so the real data files are never modified.
+        public void run(String sourceDir, PrintStream report) throws IOException, InterruptedException {
+            String original = DataFiles.getDirectory();
+            Path scratch = Files.createTempDirectory("smarthealth-load-");
+            try {
+                for (String name : DATA_FILES) {
+                    Path source = Paths.get(sourceDir, name);
+                    if (Files.exists(source)) Files.copy(source, scratch.resolve(name));
+                }
+                DataFiles.setDirectory(scratch.toString());
+                report.println("Running against a scratch copy of " + sourceDir + " in " + scratch);
+                run(report);
+            } finally {
+                DataFiles.setDirectory(original);
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(scratch)) {
+                    for (Path file : files) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+                Files.deleteIfExists(scratch);
+            }
+        }
+
+        private void run(PrintStream report) throws InterruptedException {
+            startRecords.put(PatientDAO.FILE_NAME, new PatientDAO().getAllPatients().size());
+            startRecords.put(DoctorDAO.FILE_NAME, new DoctorDAO().getAllDoctors().size());
+            startRecords.put(AppointmentDAO.FILE_NAME, new AppointmentDAO().getAllAppointments().size());
+            patients = Math.max(1, new PatientDAO().getNextId() - 1);
+            doctors = Math.max(1, new DoctorDAO().getNextId() - 1);
+            appointments = Math.max(1, new AppointmentDAO().getNextId() - 1);
+
+            long deadline = System.currentTimeMillis() + durationMillis;
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int worker = t;
+                Thread thread = new Thread(() -> work(worker, deadline), "load-" + t);
+                workers.add(thread);
+                thread.start();
+            }
+
+            long start = System.nanoTime();
+            growth.add(sample(0));
+            while (System.currentTimeMillis() < deadline) {
+                Thread.sleep(Math.min(sampleMillis, Math.max(1, deadline - System.currentTimeMillis())));
+                growth.add(sample((System.nanoTime() - start) / 1_000_000));
+            }
+            for (Thread thread : workers) {
+                thread.join();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            print(report, seconds);
+        }
+
+        private void work(int worker, long deadline) {
+            BatchRunner runner = new BatchRunner(new PatientService(), new DoctorService(), new AppointmentService());
+            WorkloadGenerator gen = new WorkloadGenerator(seed + worker);
+            Random random = new Random(seed * 31 + worker);
+            Map<String, long[]> local = new HashMap<>();
+            Map<String, Integer> counts = new HashMap<>();
+
+            while (System.currentTimeMillis() < deadline) {
+                String op = pickOp(random);
+                String command = command(op, gen, patients, doctors, appointments);
+                long begin = System.nanoTime();
+                try {
+                    if (runner.execute(command)) {
+                        succeeded.computeIfAbsent(op, k -> new AtomicLong()).incrementAndGet();
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                } catch (MalformedCommandException e) {
+                    malformed.incrementAndGet();
+                    if (firstError == null) firstError = op + ": " + e.getMessage();
+                } catch (RuntimeException e) {
+                    // I/O or parse errors, e.g. a corrupt line in the copied data files
+                    errors.incrementAndGet();
+                    if (firstError == null) firstError = op + ": " + e;
+                }
+                long elapsed = System.nanoTime() - begin;
+                completed.incrementAndGet();
+
+                long[] samples = local.get(op);
+                int n = counts.getOrDefault(op, 0);
+                if (samples == null || n == samples.length) {
+                    samples = samples == null ? new long[256] : Arrays.copyOf(samples, samples.length * 2);
+                    local.put(op, samples);
+                }
+                samples[n] = elapsed;
+                counts.put(op, n + 1);
+            }
+
+            synchronized (latencies) {
+                for (Map.Entry<String, long[]> e : local.entrySet()) {
+                    latencies.computeIfAbsent(e.getKey(), k -> new ArrayList<>())
+                            .add(Arrays.copyOf(e.getValue(), counts.get(e.getKey())));
+                }
+            }
+        }
+
+        private String pickOp(Random random) {
+            int r = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (r < cumulativeWeights[i]) return ops[i];
+            }
+            return ops[ops.length - 1];
+        }
+
+        private String command(String op, WorkloadGenerator gen, int patients, int doctors, int appointments) {
+            switch (op) {
+                case "add-patient":
+                    return op + " " + gen.name() + "," + gen.age() + "," + gen.gender() + "," + gen.contact();
+                case "update-patient":
+                    return op + " " + gen.uniform(patients) + "," + gen.name() + "," + gen.age() + "," + gen.gender() + "," + gen.contact();
+                case "add-doctor":
+                    return op + " " + gen.doctorName() + "," + gen.specialization() + "," + gen.contact();
+                case "update-doctor":
+                    return op + " " + gen.uniform(doctors) + "," + gen.doctorName() + "," + gen.specialization() + "," + gen.contact();
+                case "schedule":
+                    return op + " " + gen.uniform(patients) + "," + gen.pick(doctors) + "," + gen.date(startDate, 365) + "," + gen.time();
+                case "reschedule":
+                    return op + " " + gen.uniform(appointments) + "," + gen.date(startDate, 365) + "," + gen.time();
+                case "cancel":
+                case "delete-patient":
+                case "delete-doctor":
+                    return op + " " + gen.uniform(op.equals("cancel") ? appointments : op.equals("delete-patient") ? patients : doctors);
+                case "list-by-doctor":
+                    return op + " " + gen.pick(doctors);
+                case "list-by-date":
+                    return op + " " + gen.date(startDate, 365);
+                case "find-slots":
+                    return op + " " + gen.specialization() + "," + gen.date(startDate, 365) + ",09:00,30,09:00,17:00,5";
+                default:
+                    return op;
+            }
+        }
+
+        private String sample(long elapsedMillis) {
+            StringBuilder sb = new StringBuilder(String.format("%8d ms %10d ops", elapsedMillis, completed.get()));
+            for (String name : DATA_FILES) {
+                sb.append(String.format("  %s=%d B", name, new File(DataFiles.path(name)).length()));
+            }
+            return sb.toString();
+        }
+
+        private void print(PrintStream report, double seconds) {
+            report.println("=== Load Test ===");
+            report.printf("Threads: %d, Duration: %.1f s, Seed: %d%n", threads, seconds, seed);
+            report.printf("Operations: %d (%.1f ops/s), failed: %d, malformed: %d, errors: %d%n",
+                    completed.get(), completed.get() / seconds, failed.get(), malformed.get(), errors.get());
+            if (firstError != null) report.println("First error: " + firstError);
+            report.println();
+            report.printf("%-18s %8s %10s %10s %10s %10s%n", "Operation", "Count", "p50 ms", "p90 ms", "p99 ms", "max ms");
+            for (String op : new TreeSet<>(latencies.keySet())) {
+                int total = 0;
+                for (long[] part : latencies.get(op)) total += part.length;
+                long[] all = new long[total];
+                int pos = 0;
+                for (long[] part : latencies.get(op)) {
+                    System.arraycopy(part, 0, all, pos, part.length);
+                    pos += part.length;
+                }
+                Arrays.sort(all);
+                report.printf("%-18s %8d %10.2f %10.2f %10.2f %10.2f%n", op, all.length,
+                        percentile(all, 50), percentile(all, 90), percentile(all, 99), all[all.length - 1] / 1e6);
+            }
+            report.println();
+            report.println("Data file growth:");
+            for (String line : growth) {
+                report.println(line);
             }
+            report.println();
+            report.println("Data integrity (expected = records at start + successful adds - successful deletes):");
+            checkFile(report, PatientDAO.FILE_NAME, 5, "add-patient", "delete-patient");
+            checkFile(report, DoctorDAO.FILE_NAME, 4, "add-doctor", "delete-doctor");
+            checkFile(report, AppointmentDAO.FILE_NAME, 5, "schedule", "cancel");
+        }
+
+        // Lost updates, duplicate ids from racing getNextId calls and torn lines all show up here.
+        private void checkFile(PrintStream report, String name, int fields, String addOp, String deleteOp) {
+            long expected = startRecords.get(name) + succeeded(addOp) - succeeded(deleteOp);
+            int records = 0;
+            int duplicates = 0;
+            int unreadable = 0;
+            Set<String> ids = new HashSet<>();
+            try (BufferedReader br = new BufferedReader(new FileReader(DataFiles.path(name)))) {
+                String line;
+                while ((line = br.readLine()) != null) {
+                    if (line.trim().isEmpty()) continue;
+                    String[] parts = line.split(",");
+                    if (parts.length != fields || !parts[0].matches("\\d+")) {
+                        unreadable++;
+                        continue;
+                    }
+                    records++;
+                    if (!ids.add(parts[0])) duplicates++;
+                }
+            } catch (IOException e) {
+                report.println("  " + name + ": " + e.getMessage());
+                return;
+            }
+            report.printf("  %-17s %8d records (expected %d), %d duplicate ids, %d unreadable lines%n",
+                    name, records, expected, duplicates, unreadable);
+        }
+
+        private long succeeded(String op) {
+            AtomicLong count = succeeded.get(op);
+            return count == null ? 0 : count.get();
+        }
+
+        private static double percentile(long[] sorted, int p) {
+            int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
         }
     }
 
@@ -584,6 +2053,19 @@ public class SmartHealthApp {
     // Main Application
     // ==============================
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--generate")) {
+            runGenerate(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--loadtest")) {
+            runLoadTest(args);
+            return;
+        }
+
         Scanner sc = new Scanner(System.in);
         PatientService patientService = new PatientService();
         DoctorService doctorService = new DoctorService();
@@ -619,6 +2101,91 @@ public class SmartHealthApp {
         }
     }
 
+    // Usage: java SmartHealthApp --batch <script|-> [--out <results file>]
+    private static void runBatch(String[] args) {
+        String script = args.length > 1 && !args[1].startsWith("--") ? args[1] : "-";
+        String outFile = parseOptions(args).getOrDefault("out", "batch-results.txt");
+
+        BatchRunner runner = new BatchRunner(new PatientService(), new DoctorService(), new AppointmentService());
+        long start = System.nanoTime();
+        try (BufferedReader in = script.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in))
+                : new BufferedReader(new FileReader(script));
+             PrintWriter results = new PrintWriter(new BufferedWriter(new FileWriter(outFile)))) {
+            runner.run(in, results);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            String summary = String.format("Executed %d commands in %.3f s (%.1f commands/s): %d ok, %d failed, %d malformed, %d errors",
+                    runner.getTotal(), seconds, seconds > 0 ? runner.getTotal() / seconds : 0.0,
+                    runner.getOk(), runner.getFailed(), runner.getMalformed(), runner.getErrors());
+            results.println(summary);
+            System.out.println(summary);
+            System.out.println("Results written to " + outFile);
+        } catch (IOException e) {
+            System.out.println("Error running batch: " + e.getMessage());
+        }
+    }
+
+    // Usage: java SmartHealthApp --generate [--seed N] [--patients N] [--doctors N] [--appointments N] [--days N] [--start YYYY-MM-DD]
+    private static void runGenerate(String[] args) {
+        try {
+            Map<String, String> options = parseOptions(args);
+            long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+            int patients = Integer.parseInt(options.getOrDefault("patients", "10000"));
+            int doctors = Integer.parseInt(options.getOrDefault("doctors", "300"));
+            int appointments = Integer.parseInt(options.getOrDefault("appointments", "100000"));
+            int days = Integer.parseInt(options.getOrDefault("days", "365"));
+            String start = options.getOrDefault("start", LocalDate.now().toString());
+            if (!InputValidator.isValidDate(start)) {
+                System.out.println("Invalid start date. Use YYYY-MM-DD.");
+                return;
+            }
+            if (patients <= 0 || doctors <= 0 || appointments < 0 || days <= 0) {
+                System.out.println("Counts must be positive.");
+                return;
+            }
+            new WorkloadGenerator(seed).generate(patients, doctors, appointments, LocalDate.parse(start), days);
+            System.out.println("Generated " + patients + " patients, " + doctors + " doctors and " +
+                    appointments + " appointments (seed " + seed + ").");
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        } catch (DateTimeException e) {
+            System.out.println("Invalid start date: " + e.getMessage());
+        }
+    }
+
+    // Usage: java SmartHealthApp --loadtest [--threads N] [--seconds N] [--sample-ms N] [--seed N] [--mix cmd=weight,...] [--data-dir DIR]
+    private static void runLoadTest(String[] args) {
+        try {
+            Map<String, String> options = parseOptions(args);
+            LoadTest test = new LoadTest(
+                    Integer.parseInt(options.getOrDefault("threads", "4")),
+                    Long.parseLong(options.getOrDefault("seconds", "30")) * 1000,
+                    Long.parseLong(options.getOrDefault("sample-ms", "1000")),
+                    Long.parseLong(options.getOrDefault("seed", "42")),
+                    options.getOrDefault("mix", LoadTest.DEFAULT_MIX));
+            test.run(options.getOrDefault("data-dir", DataFiles.getDirectory()), System.out);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid load test options: " + e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Error preparing scratch data: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Collects "--key value" pairs following the mode flag.
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length - 1; i++) {
+            if (args[i].startsWith("--")) {
+                options.put(args[i].substring(2), args[++i]);
+            }
+        }
+        return options;
+    }
+
     private static void patientMenu(Scanner sc, PatientService service) {
         while (true) {
             System.out.println("\n--- Patient Management ---");
@@ -726,7 +2293,10 @@ public class SmartHealthApp {
             System.out.println("2. Update Appointment");
             System.out.println("3. Cancel Appointment");
             System.out.println("4. List Appointments");
-            System.out.println("5. Back");
+            System.out.println("5. List Appointments by Doctor");
+            System.out.println("6. List Appointments by Date");
+            System.out.println("7. Find Available Slots");
+            System.out.println("8. Back");
             System.out.print("Choose an option: ");
             String choice = sc.nextLine();
 
@@ -760,6 +2330,33 @@ public class SmartHealthApp {
                     service.listAppointments();
                     break;
                 case "5":
+                    System.out.print("Doctor ID: ");
+                    int doctorFilter = Integer.parseInt(sc.nextLine());
+                    service.listAppointmentsByDoctor(doctorFilter);
+                    break;
+                case "6":
+                    System.out.print("Date (YYYY-MM-DD): ");
+                    String dateFilter = sc.nextLine();
+                    service.listAppointmentsByDate(dateFilter);
+                    break;
+                case "7":
+                    System.out.print("Specialization: ");
+                    String specialization = sc.nextLine();
+                    System.out.print("Earliest Date (YYYY-MM-DD): ");
+                    String fromDate = sc.nextLine();
+                    System.out.print("Earliest Time (HH:MM): ");
+                    String fromTime = sc.nextLine();
+                    System.out.print("Slot Length (minutes): ");
+                    int slotMinutes = Integer.parseInt(sc.nextLine());
+                    System.out.print("Working Hours Start (HH:MM): ");
+                    String workStart = sc.nextLine();
+                    System.out.print("Working Hours End (HH:MM): ");
+                    String workEnd = sc.nextLine();
+                    System.out.print("Number of Slots: ");
+                    int count = Integer.parseInt(sc.nextLine());
+                    service.findAvailableSlots(specialization, fromDate, fromTime, slotMinutes, workStart, workEnd, count);
+                    break;
+                case "8":
                     return;
                 default:
                     System.out.println("Invalid option. Try again.");